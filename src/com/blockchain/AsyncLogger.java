@@ -0,0 +1,161 @@
+// -------------------------------------------------------------
+//
+// This is an asynchronous logging utility, used by Workers and Miners
+// so they never block on console output.
+// Messages are given as suppliers, built only when logged, and are
+// handed through a bounded buffer to a single logging thread.
+// When the buffer is full, messages are dropped and counted.
+// Sites rate limit a repeated message and summarize its total count.
+// Available actions: Info, Site and Flush.
+//
+// Author: Aggelos Stamatiou, November 2019
+//
+// --------------------------------------------------------------
+
+package com.blockchain;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+public class AsyncLogger {
+
+    private static Logger logger = Logger.getLogger(AsyncLogger.class.getName());
+    private static final int BUFFER_SIZE = 8192; // Messages waiting to be logged.
+    private static final BlockingQueue<Entry> buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+    private static final AtomicLong droppedCount = new AtomicLong();
+
+    static {
+        // This is the logging thread, draining the buffer.
+        Thread loggingThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        buffer.take().log();
+                        long dropped = droppedCount.getAndSet(0);
+                        if (dropped > 0) {
+                            logger.warning(String.format("%,d log messages dropped, logging buffer was full.", dropped));
+                        }
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (RuntimeException e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }, "AsyncLogger");
+        loggingThread.setDaemon(true);
+        loggingThread.start();
+    }
+
+    private AsyncLogger() {}
+
+    // Queues a message, without blocking. The message is only built if the logger accepts it.
+    // Time is recorded now, so it describes the call and not when it was logged.
+    // Source is given by the caller, as in Logger.logp, so no stack walk is needed.
+    public static void info(Logger target, String sourceClass, String sourceMethod, Supplier<String> message) {
+        if (!target.isLoggable(Level.INFO)) return;
+        LogRecord record = new LogRecord(Level.INFO, null);
+        record.setLoggerName(target.getName());
+        record.setSourceClassName(sourceClass);
+        record.setSourceMethodName(sourceMethod);
+        if (!buffer.offer(new Entry(target, record, message, null))) {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    // Waits until all messages queued so far have been logged.
+    public static void flush() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        buffer.put(new Entry(null, null, null, latch));
+        latch.await();
+    }
+
+    // Creates a rate limited Site, logging at most messagesPerSecond messages each second.
+    public static Site site(Logger target, String sourceClass, String sourceMethod, String description, int messagesPerSecond) {
+        return new Site(target, sourceClass, sourceMethod, description, messagesPerSecond);
+    }
+
+    // A log site that may be hit many times, e.g. a failed check inside a Worker loop.
+    // Every hit is counted, but only the first messages of each second are logged.
+    public static class Site {
+
+        private final Logger target;
+        private final String sourceClass;
+        private final String sourceMethod;
+        private final String description;
+        private final int messagesPerSecond;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong suppressedCount = new AtomicLong();
+        private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+        private final AtomicInteger windowCount = new AtomicInteger();
+
+        private Site(Logger target, String sourceClass, String sourceMethod, String description, int messagesPerSecond) {
+            this.target = target;
+            this.sourceClass = sourceClass;
+            this.sourceMethod = sourceMethod;
+            this.description = description;
+            this.messagesPerSecond = messagesPerSecond;
+        }
+
+        public void info(Supplier<String> message) {
+            count.incrementAndGet();
+            long now = System.nanoTime();
+            long start = windowStart.get();
+            // A new second started, the first Worker to notice resets the window.
+            if (now - start >= 1000000000L && windowStart.compareAndSet(start, now)) {
+                windowCount.set(0);
+            }
+            if (windowCount.incrementAndGet() <= messagesPerSecond) {
+                AsyncLogger.info(target, sourceClass, sourceMethod, message);
+            } else {
+                suppressedCount.incrementAndGet();
+            }
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        // Logs the total count of this Site hits, if any, and resets it.
+        public void summarize() {
+            long total = count.getAndSet(0);
+            long suppressed = suppressedCount.getAndSet(0);
+            if (total > 0) {
+                AsyncLogger.info(target, sourceClass, sourceMethod, () -> String.format("%,d %s", total, description)
+                        + ((suppressed > 0) ? String.format(" (%,d similar messages suppressed).", suppressed) : "."));
+            }
+        }
+    }
+
+    // A queued message, or a flush marker when latch is set.
+    private static class Entry {
+        private final Logger target;
+        private final LogRecord record;
+        private final Supplier<String> message;
+        private final CountDownLatch latch;
+
+        private Entry(Logger target, LogRecord record, Supplier<String> message, CountDownLatch latch) {
+            this.target = target;
+            this.record = record;
+            this.message = message;
+            this.latch = latch;
+        }
+
+        private void log() {
+            if (latch != null) {
+                latch.countDown();
+            } else {
+                record.setMessage(message.get());
+                target.log(record);
+            }
+        }
+    }
+}
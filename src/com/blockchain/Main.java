@@ -21,11 +21,12 @@ public class Main {
     // Define how many threads to use in parallel actions.
     private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors(); // System threads.
     //private static final int THREAD_COUNT = 4; // Exact thread count to use.
-    private static ProductBlockChain blockChain = new ProductBlockChain();
+    private static ProductBlockChain blockChain = new ProductBlockChain(THREAD_COUNT);
 
     // This is the UI thread interacting with the user.
     public static void main(String[] args) {
         logger.info("Product Block Chain Parallel Threads Only (" + THREAD_COUNT + " Threads) application started.");
+        Exception exception = null;
         try {
             // Retrieving user input to define the action. Application terminates if user enters "quit".
             String action = retrieveInputAction();
@@ -47,15 +48,32 @@ public class Main {
             }
 
         } catch (Exception e) {
+            exception = e;
+        } finally {
+            // Pending messages are logged before the application terminates.
+            flushPendingMessages();
+        }
+        if (exception != null) {
             // When an exception occurs, its stacktrace is printed and the application terminates.
-            e.printStackTrace();
-            logger.info("There was an exception (" + e.getMessage() +"). Application terminating.");
+            exception.printStackTrace();
+            logger.info("There was an exception (" + exception.getMessage() +"). Application terminating.");
         }
         logger.info("Product Block Chain application terminated.");
     }
 
+    // Waits for pending asynchronous messages, if the application is not interrupted.
+    private static void flushPendingMessages() {
+        try {
+            AsyncLogger.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     // Retrieving users input in order to define the action.
-    private static String retrieveInputAction () {
+    private static String retrieveInputAction () throws InterruptedException {
+        // Pending messages of the previous action are logged before prompting the user.
+        AsyncLogger.flush();
         logger.info("Enter action: ");
         String input = inputScanner.nextLine();
         logger.info("User input: " + input);
@@ -188,6 +206,8 @@ public class Main {
         stopwatch.start("isChainValid");
         Boolean isChainValid = blockChain.isChainValid(THREAD_COUNT);
         stopwatch.stop("isChainValid");
+        // Validation messages are logged before its result.
+        AsyncLogger.flush();
         if (isChainValid) {
             logger.info("BlockChain has been successfully validated.");
         } else {
@@ -95,9 +95,9 @@ public class ProductBlock {
             @Override
             public void run() {
                 try {
-                    logger.info("Miner " + Thread.currentThread().getName()  + " started.");
                     // Each Miner creates a local hash and nonce.
                     int threadId = Integer.parseInt(Thread.currentThread().getName());
+                    AsyncLogger.info(logger, ProductBlock.class.getName(), "mineBlockParallel", () -> "Miner " + threadId + " started.");
                     // First thread will try serial while the other will try with random numbers
                     int localNonce = (threadId == 0 ) ? 0 : new Random().nextInt() * threadId;
                     String localHash = calculateBlockHash(localNonce);
@@ -106,7 +106,9 @@ public class ProductBlock {
                         localNonce += (threadId == 0 ) ? 1 : new Random().nextInt() * threadId;
                         localHash = calculateBlockHash(localNonce);
                     }
-                    logger.info("Miner " + Thread.currentThread().getName() + " finished. Hash->" + localHash + ", nonce->" + Integer.toString(localNonce));
+                    String minerHash = localHash;
+                    int minerNonce = localNonce;
+                    AsyncLogger.info(logger, ProductBlock.class.getName(), "mineBlockParallel", () -> "Miner " + threadId + " finished. Hash->" + minerHash + ", nonce->" + minerNonce);
                     // If a Miner creates a local hash that is valid, it pass it to the Block hash.
                     synchronized (this) {
                         // Only the first Miner that found the hash can update the Block hash.
@@ -117,13 +119,16 @@ public class ProductBlock {
                     }
                 } catch (Exception e) {
                     e.printStackTrace();
-                    logger.info("There was an exception on Block " + blockId + " hash calculation.");
+                    AsyncLogger.info(logger, ProductBlock.class.getName(), "mineBlockParallel", () -> "There was an exception on Block " + blockId + " hash calculation.");
                 }
             }
         };
         // Create and execute Miners.
         Workers.work(minerRunnable, threadCount);
-        logger.info("Mined hash->" + hash + ", validity->" + hash.equals(calculateBlockHash(null)));
+        // Hash and nonce are set together by the winning Miner, so no extra hash calculation is needed to log them.
+        String minedHash = hash;
+        int minedNonce = nonce;
+        AsyncLogger.info(logger, ProductBlock.class.getName(), "mineBlockParallel", () -> "Mined hash->" + minedHash + ", nonce->" + minedNonce);
 
         return hash;
     }
@@ -15,15 +15,15 @@ package com.blockchain;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonParseException;
 
 import java.io.*;
-import java.lang.reflect.Type;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.logging.Logger;
@@ -36,19 +36,31 @@ public class ProductBlockChain {
     private static Gson jsonPrettyPrinter = new GsonBuilder().setPrettyPrinting().create();
     private static final String DATABASE_FILE = "BlockChainDB.json"; // Program uses a .json file that acts as/simulates Database.
     private static final int prefix = 6; // This is the prefix zeros count a hash must have in order to be considered valid.
+    private static final int VALIDATION_MESSAGES_PER_SECOND = 10; // Failed check messages logged each second, the rest are only counted.
     private static List<ProductBlock> blockChain;
 
     // Retrieving Block Chain current state from a File that acts as/simulates a Database.
-    public ProductBlockChain() {
+    // Blocks are verified in parallel while loading, so no separate validation pass is required.
+    public ProductBlockChain(int threadCount) {
+        ProductBlockChainLoader loader = new ProductBlockChainLoader(prefix, threadCount);
         try {
-            Reader reader = new FileReader(DATABASE_FILE);
-            Type listType = new TypeToken<ArrayList<ProductBlock>>(){}.getType();
-            blockChain = new Gson().fromJson(reader, listType);
-            reader.close();
-        } catch (IOException e) {
-            // If the file is not found or is corrupted, a new Block Chain will be created.
+            blockChain = loader.load(DATABASE_FILE);
+            // Pending loading messages are logged first.
+            AsyncLogger.flush();
+            if (loader.isLoadedChainValid()) {
+                logger.info("BlockChain has been successfully loaded and validated.");
+            } else {
+                logger.info("BlockChain has been loaded, but is not valid.");
+            }
+        } catch (FileNotFoundException e) {
             logger.info("No Database file found, creating new Block Chain.");
             blockChain = new ArrayList<>();
+        } catch (IOException | JsonParseException e) {
+            // If the file is corrupted, the Block Chain is left uninitialized, so the file is never overwritten.
+            logger.info("Database file is corrupted (" + e.getMessage() + "), Block Chain not initialized.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.info("Block Chain loading was interrupted, Block Chain not initialized.");
         }
     }
 
@@ -83,6 +95,8 @@ public class ProductBlockChain {
             // Calculating Block hash.
             productBlock.mineBlockParallel(prefix, threadCount);
             blockChain.add(productBlock);
+            // Pending Miner messages are logged first.
+            AsyncLogger.flush();
             logger.info("Product Block has been successfully created. Saving it to Database.");
             // Saving new Block to *Database*.
             saveChainToJsonFile();
@@ -142,8 +156,11 @@ public class ProductBlockChain {
 
     // Loop through Block Chain to check hashes validity.
     public Boolean isChainValid(int threadCount) throws Exception {
+        if (blockChain == null) throw new Exception("Block Chain not initialized correctly.");
         String hashTarget = new String(new char[prefix]).replace('\0', '0');
         AtomicReference<Boolean> isBlockChainValid = new AtomicReference<>(true);
+        // Failed checks are rate limited and summarized, so a corrupted Block Chain doesn't flood the console.
+        ValidationSites sites = new ValidationSites();
         // This is the code each Worker will run.
         Runnable workerRunnable = new Runnable() {
             @Override
@@ -151,26 +168,9 @@ public class ProductBlockChain {
                 int workerId = Integer.parseInt(Thread.currentThread().getName());
                 List<ProductBlock> workerList = Workers.retrieveWorkerList(threadCount, workerId, blockChain);
                 workerList.forEach( block -> {
-                    // Compare registered hash and calculated hash.
-                    try {
-                        if (!block.getHash().equals(block.calculateBlockHash(null))) {
-                            logger.info("Block " + block.getBlockId() + " current hashes not equal.");
-                            if (isBlockChainValid.get()) isBlockChainValid.set(false);
-                        }
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        if (isBlockChainValid.get()) isBlockChainValid.set(false);
-                    }
-                    // Compare previous hash and registered previous hash.
-                    if (blockChain.indexOf(block) > 0) {
-                        if (!blockChain.get(blockChain.indexOf(block) - 1).getHash().equals(block.getPreviousHash())) {
-                            logger.info("Block " + block.getBlockId() + " previous hashes not equal.");
-                            if (isBlockChainValid.get()) isBlockChainValid.set(false);
-                        }
-                    }
-                    // Check if hash is solved.
-                    if (!block.getHash().substring( 0, prefix).equals(hashTarget)) {
-                        logger.info("Block " + block.getBlockId() + " hasn't been mined.");
+                    int index = blockChain.indexOf(block);
+                    ProductBlock previousBlock = (index > 0) ? blockChain.get(index - 1) : null;
+                    if (!isBlockValid(block, previousBlock, hashTarget, sites)) {
                         if (isBlockChainValid.get()) isBlockChainValid.set(false);
                     }
                 });
@@ -178,9 +178,54 @@ public class ProductBlockChain {
         };
         // Create and execute Workers.
         Workers.work(workerRunnable, threadCount);
+        sites.summarize();
         return isBlockChainValid.get();
     }
 
+    // Verifies a Block hash and prefix, and its linkage to the previous Block, if known.
+    // Shared by validation and loading, so both apply the same rules.
+    static boolean isBlockValid(ProductBlock block, ProductBlock previousBlock, String hashTarget, ValidationSites sites) {
+        if (block.getHash() == null) {
+            sites.hashFailures.info(() -> "Block " + block.getBlockId() + " has no hash.");
+            return false;
+        }
+        boolean isValid = true;
+        // Compare registered hash and calculated hash.
+        try {
+            if (!block.getHash().equals(block.calculateBlockHash(null))) {
+                sites.hashFailures.info(() -> "Block " + block.getBlockId() + " current hashes not equal.");
+                isValid = false;
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            isValid = false;
+        }
+        // Compare previous hash and registered previous hash.
+        if (previousBlock != null && !Objects.equals(previousBlock.getHash(), block.getPreviousHash())) {
+            sites.linkageFailures.info(() -> "Block " + block.getBlockId() + " previous hashes not equal.");
+            isValid = false;
+        }
+        // Check if hash is solved.
+        if (!block.getHash().startsWith(hashTarget)) {
+            sites.prefixFailures.info(() -> "Block " + block.getBlockId() + " hasn't been mined.");
+            isValid = false;
+        }
+        return isValid;
+    }
+
+    // Log sites of a single validation, one for each check.
+    static class ValidationSites {
+        final AsyncLogger.Site hashFailures = AsyncLogger.site(logger, ProductBlockChain.class.getName(), "isBlockValid", "blocks failed hash check", VALIDATION_MESSAGES_PER_SECOND);
+        final AsyncLogger.Site linkageFailures = AsyncLogger.site(logger, ProductBlockChain.class.getName(), "isBlockValid", "blocks failed previous hash check", VALIDATION_MESSAGES_PER_SECOND);
+        final AsyncLogger.Site prefixFailures = AsyncLogger.site(logger, ProductBlockChain.class.getName(), "isBlockValid", "blocks haven't been mined", VALIDATION_MESSAGES_PER_SECOND);
+
+        void summarize() {
+            hashFailures.summarize();
+            linkageFailures.summarize();
+            prefixFailures.summarize();
+        }
+    }
+
     // Search a Product Block by "Product Code", "Product Title" and "Product Category".
     public void searchProduct(String productCode, String productTitle, String productCategory, String productDescription, Boolean retrieveLatest, int threadCount) throws InterruptedException {
         if (blockChain != null && !blockChain.isEmpty()) {
@@ -208,6 +253,8 @@ public class ProductBlockChain {
             };
             // Create and execute Workers.
             Workers.work(workerRunnable, threadCount);
+            // Pending messages are logged before the results.
+            AsyncLogger.flush();
             if (!productRecordList.isEmpty()) {
                 logger.info("Product records found: \n" + jsonPrettyPrinter.toJson(productRecordList));
             } else {
@@ -224,6 +271,8 @@ public class ProductBlockChain {
         if (blockChain != null && !blockChain.isEmpty()) {
             // Retrieving latest Product Person for that productCode, if it exists.
             ProductBlock productLatestRecord = retrieveListsLatestRecordByProductCode(threadCount, productCode);
+            // Pending messages are logged before the results.
+            AsyncLogger.flush();
             if (productLatestRecord != null) {
                 // Product Latest Record.
                 logger.info("Product found: \n" + jsonPrettyPrinter.toJson(productLatestRecord));
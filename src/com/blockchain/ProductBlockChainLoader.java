@@ -0,0 +1,175 @@
+// -------------------------------------------------------------
+//
+// This class loads the Block Chain from the .json Database file.
+// The file is streamed by the caller thread, which hands batches
+// of raw Blocks to Workers. Each Worker deserializes its batch and
+// verifies hash, prefix and previous hash linkage while loading,
+// so the Block Chain is loaded and verified in a single pass.
+//
+// Author: Aggelos Stamatiou, November 2019
+//
+// --------------------------------------------------------------
+
+package com.blockchain;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+public class ProductBlockChainLoader {
+
+    private static Logger logger = Logger.getLogger(ProductBlockChainLoader.class.getName());
+    private static Gson gson = new Gson();
+    private static final int BATCH_SIZE = 256; // Blocks handed to a Worker at once.
+    private static final long PROGRESS_INTERVAL = 1000000000L; // Nanoseconds between progress reports.
+
+    private final int prefix;
+    private final int threadCount;
+    private Boolean isLoadedChainValid;
+
+    public ProductBlockChainLoader(int prefix, int threadCount) {
+        this.prefix = prefix;
+        this.threadCount = threadCount;
+    }
+
+    // Whether the last loaded Block Chain passed verification.
+    public Boolean isLoadedChainValid() {
+        return isLoadedChainValid;
+    }
+
+    // Streams the Block Chain from the given file, verifying each Block as it is loaded.
+    public List<ProductBlock> load(String databaseFile) throws IOException, InterruptedException {
+        String hashTarget = new String(new char[prefix]).replace('\0', '0');
+        // Bounded queue, so the reader never gets too far ahead of the Workers.
+        BlockingQueue<Batch> batchQueue = new ArrayBlockingQueue<>(threadCount * 2);
+        Map<Integer, List<ProductBlock>> loadedBatches = new TreeMap<>();
+        AtomicBoolean isChainValid = new AtomicBoolean(true);
+        AtomicReference<RuntimeException> loadException = new AtomicReference<>();
+        // Failed checks are rate limited and summarized, so a corrupted Block Chain doesn't flood the console.
+        ProductBlockChain.ValidationSites sites = new ProductBlockChain.ValidationSites();
+        // This is the code each Worker will run.
+        Runnable workerRunnable = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Batch batch = batchQueue.take();
+                    // An empty batch signals there are no more Blocks to load.
+                    while (!batch.elements.isEmpty()) {
+                        List<ProductBlock> workerList = new ArrayList<>(batch.elements.size());
+                        // Any failure is recorded, so the Worker keeps serving the remaining batches.
+                        try {
+                            for (int i = 0; i < batch.elements.size(); i++) {
+                                ProductBlock block = gson.fromJson(batch.elements.get(i), ProductBlock.class);
+                                // An empty Block would leave a gap in the Block Chain, so the load fails.
+                                if (block == null) {
+                                    throw new JsonParseException("Block at position " + (batch.index * BATCH_SIZE + i) + " is empty");
+                                }
+                                if (!ProductBlockChain.isBlockValid(block, workerList.isEmpty() ? null : workerList.get(workerList.size() - 1), hashTarget, sites)) {
+                                    isChainValid.set(false);
+                                }
+                                workerList.add(block);
+                            }
+                        } catch (RuntimeException e) {
+                            loadException.compareAndSet(null, e);
+                        }
+                        synchronized (loadedBatches) {
+                            loadedBatches.put(batch.index, workerList);
+                        }
+                        batch = batchQueue.take();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        // Create and start Workers, then feed them from the Database file.
+        Thread[] workers = Workers.start(workerRunnable, threadCount);
+        long startTime = System.nanoTime();
+        int blocksRead = 0;
+        int batchesQueued = 0;
+        try (JsonReader reader = new JsonReader(new BufferedReader(new FileReader(databaseFile)))) {
+            JsonParser parser = new JsonParser();
+            long lastReportTime = startTime;
+            List<JsonElement> elements = new ArrayList<>(BATCH_SIZE);
+            reader.beginArray();
+            while (reader.hasNext()) {
+                elements.add(parser.parse(reader));
+                blocksRead++;
+                if (elements.size() == BATCH_SIZE) {
+                    batchQueue.put(new Batch(batchesQueued++, elements));
+                    elements = new ArrayList<>(BATCH_SIZE);
+                    long now = System.nanoTime();
+                    if (now - lastReportTime >= PROGRESS_INTERVAL) {
+                        long rate = blocksPerSecond(blocksRead, now - startTime);
+                        int read = blocksRead;
+                        AsyncLogger.info(logger, ProductBlockChainLoader.class.getName(), "load", () -> "Loading Block Chain: " + read + " blocks read (" + rate + " blocks/s).");
+                        lastReportTime = now;
+                    }
+                }
+            }
+            reader.endArray();
+            if (!elements.isEmpty()) batchQueue.put(new Batch(batchesQueued++, elements));
+        } finally {
+            // Signal Workers to finish, even if reading failed.
+            for (int i = 0; i < workers.length; i++) {
+                batchQueue.put(new Batch(-1, new ArrayList<>()));
+            }
+            Workers.join(workers);
+        }
+        if (loadException.get() instanceof JsonParseException) throw loadException.get();
+        if (loadException.get() != null) throw new IOException("Block Chain could not be loaded (" + loadException.get() + ")", loadException.get());
+        // Every queued batch must have come back, otherwise the Block Chain would be silently truncated.
+        if (loadedBatches.size() != batchesQueued) {
+            throw new IOException("Block Chain loaded partially (" + loadedBatches.size() + " of " + batchesQueued + " batches)");
+        }
+
+        // Main thread assembles the batches in order, checking linkage across batch boundaries.
+        List<ProductBlock> blockChain = new ArrayList<>(blocksRead);
+        for (List<ProductBlock> batch : loadedBatches.values()) {
+            if (!blockChain.isEmpty() && !Objects.equals(blockChain.get(blockChain.size() - 1).getHash(), batch.get(0).getPreviousHash())) {
+                ProductBlock block = batch.get(0);
+                sites.linkageFailures.info(() -> "Block " + block.getBlockId() + " previous hashes not equal.");
+                isChainValid.set(false);
+            }
+            blockChain.addAll(batch);
+        }
+        if (blockChain.size() != blocksRead) {
+            throw new IOException("Block Chain loaded partially (" + blockChain.size() + " of " + blocksRead + " blocks)");
+        }
+        sites.summarize();
+        long rate = blocksPerSecond(blocksRead, System.nanoTime() - startTime);
+        int read = blocksRead;
+        AsyncLogger.info(logger, ProductBlockChainLoader.class.getName(), "load", () -> "Block Chain loaded: " + read + " blocks (" + rate + " blocks/s).");
+        isLoadedChainValid = isChainValid.get();
+        return blockChain;
+    }
+
+    private static long blocksPerSecond(int blocks, long elapsedNanos) {
+        return (elapsedNanos > 0) ? (long) (blocks / (elapsedNanos / 1000000000.0)) : blocks;
+    }
+
+    // A batch of raw Blocks, along with its position in the Database file.
+    private static class Batch {
+        private final int index;
+        private final List<JsonElement> elements;
+
+        private Batch(int index, List<JsonElement> elements) {
+            this.index = index;
+            this.elements = elements;
+        }
+    }
+}
@@ -21,12 +21,13 @@ public class StopWatch {
     public StopWatch() {}
 
     public void start(String processName) {
-        logger.info("Process " + processName +" started.");
+        AsyncLogger.info(logger, StopWatch.class.getName(), "start", () -> "Process " + processName + " started.");
         this.startTime = System.nanoTime();
     }
 
     public void stop(String processName) {
         this.endTime = System.nanoTime();
-        logger.info("Process " + processName +" finished. Total time elapsed: " + (float)(endTime-startTime)/1000000000 +" seconds");
+        float elapsed = (float)(endTime-startTime)/1000000000;
+        AsyncLogger.info(logger, StopWatch.class.getName(), "stop", () -> "Process " + processName + " finished. Total time elapsed: " + elapsed + " seconds");
     }
 }
@@ -15,13 +15,22 @@ import java.util.List;
 public class Workers {
 
     public static void work(Runnable task, int workersCount) throws InterruptedException {
-        // Create and start Workers.
+        Thread[] workers = start(task, workersCount);
+        join(workers);
+    }
+
+    // Create and start Workers, without waiting for them, so the caller thread can keep feeding them.
+    public static Thread[] start(Runnable task, int workersCount) {
         Thread[] workers = new Thread[workersCount];
         for (int i = 0; i < workers.length; i++) {
             workers[i] = new Thread(task, String.valueOf(i));
             workers[i].start();
         }
-        // Main thread waits Workers completion.
+        return workers;
+    }
+
+    // Main thread waits Workers completion.
+    public static void join(Thread[] workers) throws InterruptedException {
         for (int i = 0; i < workers.length; i++) {
             workers[i].join();
         }